@@ -2,20 +2,27 @@ package cardgame;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Program entry point:
  * 1) Read number of players (n) and a pack filename from stdin.
- * 2) Validate pack: exactly 8n non-negative integers.
- * 3) Deal: 4 cards per player; remaining cards into each player's left deck.
- * 4) Start n player threads and wait for them to finish.
- * 5) Write deckX_output.txt files.
+ * 2) Validate pack: exactly 8n non-negative integers, dealing as it is parsed:
+ *    4 cards per player; remaining cards into each player's left deck.
+ *    Player output files are opened in parallel meanwhile.
+ * 3) Start n player threads and wait for them to finish.
+ * 4) Write deckX_output.txt files.
  *
- * Kept straightforward on purpose.
+ * Run with -Dcardgame.timing=true to print a startup time breakdown to stderr.
  */
 public class CardGame {
-    private static final Scanner SC = new Scanner(System.in);
+    private static Scanner SC;
     private static final AtomicBoolean GAME_OVER = new AtomicBoolean(false);
     private static volatile int WINNER_ID = -1;
 
@@ -37,73 +44,159 @@ public class CardGame {
     }
 
     public static void main(String[] args) {
+        // Bind to whatever System.in is right now (tests swap it between runs).
+        SC = new Scanner(System.in);
         int n = readPlayerCount();
-        List<Integer> packValues = readAndValidatePack(n);
 
-        // Build cards
-        List<Card> cards = new ArrayList<>(packValues.size());
-        for (int v : packValues) cards.add(new Card(v));
+        ExecutorService pool = Executors.newFixedThreadPool(workerCount(n));
+        PrintWriter[] writers = new PrintWriter[n];
+        Thread[] ts = new Thread[n];
+        try {
+            // Player files are opened on the pool while the pack is parsed and dealt. Opening only starts once
+            // a pack file has been opened, so a run that never gets a readable pack leaves old outputs alone.
+            AtomicLong openStart = new AtomicLong();
+            AtomicLong filesOpened = new AtomicLong();
+            List<Future<Void>> opening = new ArrayList<>();
+            Deal deal = readAndValidatePack(n, () -> {
+                openStart.set(System.nanoTime());
+                opening.addAll(forEachRange(pool, n, (from, to) -> {
+                    for (int i = from; i < to && !Thread.currentThread().isInterrupted(); i++) {
+                        writers[i] = Player.openOutput(i + 1);
+                    }
+                    filesOpened.accumulateAndGet(System.nanoTime(), Math::max);
+                }));
+            });
+            long packDealt = System.nanoTime();
 
-        // Build decks
-        CardDeck[] decks = new CardDeck[n];
-        for (int i = 0; i < n; i++) decks[i] = new CardDeck(i + 1);
+            try {
+                awaitAll(pool, opening);
+            } catch (ExecutionException e) {
+                System.err.println("Failed to open player output file: " + e.getCause().getMessage());
+                return;
+            }
+            long filesReady = System.nanoTime();
 
-        // Create players (left deck = deck i, right deck = deck (i+1) mod n)
-        Player[] players = new Player[n];
-        try {
-            for (int i = 0; i < n; i++) {
-                CardDeck left = decks[i];
-                CardDeck right = decks[(i + 1) % n];
-                players[i] = new Player(i + 1, left, right);
+            // Every deck is already full, so each player can print its hand and start straight away.
+            CardDeck[] decks = deal.decks;
+            awaitAll(pool, forEachRange(pool, n, (from, to) -> {
+                for (int i = from; i < to && !Thread.currentThread().isInterrupted(); i++) {
+                    // left deck = deck i, right deck = deck (i+1) mod n
+                    Player pl = new Player(i + 1, decks[i], decks[(i + 1) % n], writers[i]);
+                    for (int r = 0; r < 4; r++) pl.giveInitial(new Card(deal.hands[i * 4 + r]));
+                    pl.printInitialHand();
+                    ts[i] = new Thread(pl, "player-" + (i + 1));
+                    ts[i].start();
+                }
+            }));
+            long launched = System.nanoTime();
+            pool.shutdown();
+
+            // Measured from the moment the valid pack file is opened; time spent typing is not included.
+            if (Boolean.getBoolean("cardgame.timing")) {
+                System.err.printf("startup ms: parse+deal %.1f, open files %.1f (overlapped), wait for files %.1f,"
+                                + " launch %.1f, total %.1f%n",
+                        ms(packDealt - deal.parseStart), ms(filesOpened.get() - openStart.get()),
+                        ms(filesReady - packDealt), ms(launched - filesReady), ms(launched - deal.parseStart));
             }
-        } catch (IOException e) {
-            System.err.println("Failed to open player output file: " + e.getMessage());
-            return;
-        }
 
-        // Deal 4 cards to each player (round-robin)
-        int cursor = 0;
-        for (int r = 0; r < 4; r++) {
-            for (int p = 0; p < n; p++) {
-                players[p].giveInitial(cards.get(cursor++));
+            // Wait for completion
+            for (Thread t : ts) {
+                try {
+                    t.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
             }
-        }
 
-        // Now that everyone has 4 cards, print initial hands (first line in each file).
-        for (Player pl : players) {
-            pl.printInitialHand();
+            // Write deck outputs
+            writeDeckOutputs(decks);
+        } catch (ExecutionException e) {
+            // Some players may already be running; stop them so the JVM can exit.
+            System.err.println("Failed to start players: " + e.getCause());
+            stopAndJoin(ts);
+            if (e.getCause() instanceof Error) throw (Error) e.getCause();
+        } catch (InterruptedException e) {
+            stopAndJoin(ts);
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+            // Players close their own file when they finish; this covers any that never ran.
+            for (PrintWriter w : writers) if (w != null) w.close();
         }
+    }
 
-        // Put the remaining 4n cards into each player's left deck.
-        // Since pack size is 8n, after 4n to players there are 4n left, which split evenly.
-        for (int d = 0; d < n; d++) {
-            while ((cursor % n) == d && cursor < cards.size()) {
-                decks[d].discard(cards.get(cursor++));
+    // End the game without a winner and wait for every started player to exit.
+    private static void stopAndJoin(Thread[] ts) {
+        trySetWinner(-1);
+        boolean interrupted = false;
+        for (Thread t : ts) {
+            while (t != null) {
+                try {
+                    t.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
             }
         }
-        // If anything remains (shouldn't with 8n), fall back to round-robin to decks.
-        while (cursor < cards.size()) {
-            decks[cursor % n].discard(cards.get(cursor++));
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    // Hands (4 per player, in deal order) and filled decks for one validated pack.
+    private static final class Deal {
+        final int[] hands;
+        final CardDeck[] decks;
+        final long parseStart;
+
+        Deal(int[] hands, CardDeck[] decks, long parseStart) {
+            this.hands = hands;
+            this.decks = decks;
+            this.parseStart = parseStart;
         }
+    }
 
-        // Start player threads
-        Thread[] ts = new Thread[n];
-        for (int i = 0; i < n; i++) {
-            ts[i] = new Thread(players[i], "player-" + (i + 1));
-            ts[i].start();
+    private interface RangeTask {
+        void run(int from, int to) throws Exception;
+    }
+
+    private static int workerCount(int n) {
+        return Math.max(1, Math.min(n, Runtime.getRuntime().availableProcessors()));
+    }
+
+    // Split [0, n) into one contiguous range per worker.
+    private static List<Future<Void>> forEachRange(ExecutorService pool, int n, RangeTask task) {
+        int workers = workerCount(n);
+        int chunk = (n + workers - 1) / workers;
+        List<Future<Void>> fs = new ArrayList<>(workers);
+        for (int from = 0; from < n; from += chunk) {
+            final int lo = from;
+            final int hi = Math.min(n, from + chunk);
+            fs.add(pool.submit(() -> {
+                task.run(lo, hi);
+                return null;
+            }));
         }
+        return fs;
+    }
 
-        // Wait for completion
-        for (Thread t : ts) {
-            try {
-                t.join();
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+    // On the first failure, cancel the rest and wait for the pool to drain,
+    // so no task is still writing into the shared arrays afterwards.
+    private static void awaitAll(ExecutorService pool, List<Future<Void>> fs)
+            throws ExecutionException, InterruptedException {
+        try {
+            for (Future<Void> f : fs) f.get();
+        } catch (ExecutionException | InterruptedException e) {
+            for (Future<Void> f : fs) f.cancel(true);
+            pool.shutdownNow();
+            while (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                // keep waiting; range tasks stop at their next interrupt check
             }
+            throw e;
         }
+    }
 
-        // Write deck outputs
-        writeDeckOutputs(decks);
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
     }
 
     private static void writeDeckOutputs(CardDeck[] decks) {
@@ -140,19 +233,36 @@ public class CardGame {
     }
 
     // Read and validate a pack of exactly 8n non-negative integers.
-    private static List<Integer> readAndValidatePack(int n) {
+    // Cards are dealt while parsing: the first 4n round-robin to hands, the rest round-robin to decks.
+    // onFirstOpen runs once, when the first pack file is opened successfully.
+    private static Deal readAndValidatePack(int n, Runnable onFirstOpen) {
+        int need = 8 * n;
         while (true) {
             System.out.print("Please enter a valid pack filename: ");
             String path = safeReadLine();
-            List<Integer> values = new ArrayList<>();
-            try (BufferedReader br = new BufferedReader(new FileReader(path))) {
+            int[] hands = new int[4 * n];
+            CardDeck[] decks = new CardDeck[n];
+            for (int i = 0; i < n; i++) decks[i] = new CardDeck(i + 1);
+            int count = 0;
+            long parseStart;
+            try (BufferedReader br = new BufferedReader(new FileReader(path), 1 << 16)) {
+                parseStart = System.nanoTime();
+                if (onFirstOpen != null) {
+                    onFirstOpen.run();
+                    onFirstOpen = null;
+                }
                 String s;
                 while ((s = br.readLine()) != null) {
                     s = s.trim();
                     if (s.isEmpty()) continue;
                     int v = Integer.parseInt(s);
                     if (v < 0) throw new NumberFormatException("negative");
-                    values.add(v);
+                    if (count < 4 * n) {
+                        hands[(count % n) * 4 + count / n] = v;
+                    } else if (count < need) {
+                        decks[count % n].discard(new Card(v));
+                    }
+                    count++;
                 }
             } catch (IOException e) {
                 System.out.println("Error reading file: " + e.getMessage() + " try again...");
@@ -162,12 +272,11 @@ public class CardGame {
                 continue;
             }
 
-            int need = 8 * n;
-            if (values.size() != need) {
-                System.out.println("Pack must contain exactly " + need + " integers (found " + values.size() + "). try again...");
+            if (count != need) {
+                System.out.println("Pack must contain exactly " + need + " integers (found " + count + "). try again...");
                 continue;
             }
-            return values;
+            return new Deal(hands, decks, parseStart);
         }
     }
 
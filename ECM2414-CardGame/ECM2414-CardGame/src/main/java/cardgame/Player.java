@@ -23,11 +23,20 @@ public class Player implements Runnable {
     private volatile boolean hasAnnouncedWin = false;
 
     public Player(int id, CardDeck leftDeck, CardDeck rightDeck) throws IOException {
+        this(id, leftDeck, rightDeck, openOutput(id));
+    }
+
+    // Lets CardGame open the output files up front (in parallel) and hand them over later.
+    Player(int id, CardDeck leftDeck, CardDeck rightDeck, PrintWriter out) {
         this.id = id;
         this.leftDeck = leftDeck;
         this.rightDeck = rightDeck;
         this.preferred = id;
-        this.out = new PrintWriter(new FileWriter("player" + id + "_output.txt"), true);
+        this.out = out;
+    }
+
+    static PrintWriter openOutput(int id) throws IOException {
+        return new PrintWriter(new FileWriter("player" + id + "_output.txt"), true);
     }
 
     public int getId() {
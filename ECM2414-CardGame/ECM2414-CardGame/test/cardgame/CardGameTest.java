@@ -92,7 +92,7 @@ public class CardGameTest {
         Path good = Files.createTempFile("goodpack_", ".txt");
         String content = String.join("\n",
                 "0","0","1","1","2","2","3","3",  // to players
-                "4","4","5","5","6","6","7","7"   // to decks
+                "1","1","5","5","6","6","7","7"   // to decks: four 1s in total, so player 1 can win
         );
         Files.writeString(good, content);
 
@@ -109,5 +109,32 @@ public class CardGameTest {
         assertTrue(Files.exists(Path.of("deck1_output.txt")));
         assertTrue(Files.exists(Path.of("deck2_output.txt")));
     }
-}
 
+    @Test
+    void dealOrder_handsRoundRobin_thenRemainingCardsRoundRobinToDecks() throws Exception {
+        // n = 3 -> 24 distinct values, so nobody can win and every card is traceable.
+        String packContent = String.join("\n",
+                // 4 rounds to players p1,p2,p3
+                "10","11","12", "13","14","15", "16","17","18", "19","20","21",
+                // 4 rounds to decks d1,d2,d3
+                "30","31","32", "33","34","35", "36","37","38", "39","40","41"
+        );
+        Path pack = Files.createTempFile("pack_n3_", ".txt");
+        Files.writeString(pack, packContent);
+
+        String input = "3\n" + pack.toAbsolutePath() + "\n";
+        System.setIn(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+
+        // Game already over: players exit before taking a turn, so decks are written exactly as dealt.
+        CardGame.trySetWinner(-1);
+        CardGame.main(new String[0]);
+
+        assertEquals("player 1 initial hand 10 13 16 19", Files.readAllLines(Path.of("player1_output.txt")).get(0));
+        assertEquals("player 2 initial hand 11 14 17 20", Files.readAllLines(Path.of("player2_output.txt")).get(0));
+        assertEquals("player 3 initial hand 12 15 18 21", Files.readAllLines(Path.of("player3_output.txt")).get(0));
+
+        assertEquals("deck 1 contents: 30 33 36 39", Files.readString(Path.of("deck1_output.txt")).trim());
+        assertEquals("deck 2 contents: 31 34 37 40", Files.readString(Path.of("deck2_output.txt")).trim());
+        assertEquals("deck 3 contents: 32 35 38 41", Files.readString(Path.of("deck3_output.txt")).trim());
+    }
+}
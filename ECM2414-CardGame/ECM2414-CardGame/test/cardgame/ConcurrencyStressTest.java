@@ -0,0 +1,273 @@
+package cardgame;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stress checks for decks and the two-deck player turn.
+ * Many threads hammer draw/discard/snapshotValues and a ring of players, then we check
+ * per-producer FIFO order, that every player turn is atomic across its two decks, and that
+ * no card is lost or duplicated. Throughput is printed per deck implementation so a faster
+ * CardDeck can be compared against the current one. A broken implementation fails on a
+ * deadline instead of hanging the suite.
+ */
+public class ConcurrencyStressTest {
+
+    private static final int PRODUCERS = 4;
+    private static final int CONSUMERS = 4;
+    private static final int PER_PRODUCER = 20_000;
+    private static final long RING_MILLIS = 300;
+    private static final long DEADLINE_MILLIS = 20_000;
+
+    // Deck implementations under test; add new ones here.
+    private static final Map<String, IntFunction<CardDeck>> DECKS = new LinkedHashMap<>();
+    static {
+        DECKS.put("synchronized ArrayDeque", CardDeck::new);
+    }
+
+    @BeforeEach
+    @AfterEach
+    void resetCardGameStatics() throws Exception {
+        Field gameOver = CardGame.class.getDeclaredField("GAME_OVER");
+        gameOver.setAccessible(true);
+        Object atomic = gameOver.get(null); // AtomicBoolean
+        atomic.getClass().getMethod("set", boolean.class).invoke(atomic, false);
+
+        Field winner = CardGame.class.getDeclaredField("WINNER_ID");
+        winner.setAccessible(true);
+        winner.setInt(null, -1);
+    }
+
+    // Card value encodes (producer, sequence) so order can be checked per producer.
+    private static int encode(int producer, int seq) {
+        return producer * PER_PRODUCER + seq;
+    }
+
+    @Test
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void manyProducersAndConsumers_keepFifoPerProducer_andConserveCards() throws Exception {
+        for (Map.Entry<String, IntFunction<CardDeck>> e : DECKS.entrySet()) {
+            CardDeck deck = e.getValue().apply(1);
+            int total = PRODUCERS * PER_PRODUCER;
+
+            CountDownLatch start = new CountDownLatch(1);
+            long deadline = System.nanoTime() + DEADLINE_MILLIS * 1_000_000;
+            AtomicLong drawn = new AtomicLong();
+            AtomicBoolean snapshotOk = new AtomicBoolean(true);
+            ConcurrentLinkedQueue<Throwable> errors = new ConcurrentLinkedQueue<>();
+            List<Thread> threads = new ArrayList<>();
+
+            for (int p = 0; p < PRODUCERS; p++) {
+                final int producer = p;
+                threads.add(new Thread(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < PER_PRODUCER; i++) deck.discard(new Card(encode(producer, i)));
+                    } catch (Throwable t) {
+                        errors.add(t);
+                    }
+                }));
+            }
+
+            // Each consumer must see every producer's cards in increasing order.
+            List<List<Integer>> seen = new ArrayList<>();
+            for (int c = 0; c < CONSUMERS; c++) {
+                List<Integer> mine = new ArrayList<>();
+                seen.add(mine);
+                threads.add(new Thread(() -> {
+                    try {
+                        start.await();
+                        int[] last = new int[PRODUCERS];
+                        Arrays.fill(last, -1);
+                        while (drawn.get() < total && System.nanoTime() < deadline) {
+                            Card card = deck.draw();
+                            if (card == null) {
+                                Thread.yield();
+                                continue;
+                            }
+                            drawn.incrementAndGet();
+                            int v = card.getValue();
+                            int producer = v / PER_PRODUCER;
+                            int seq = v % PER_PRODUCER;
+                            assertTrue(seq > last[producer], "FIFO broken for producer " + producer);
+                            last[producer] = seq;
+                            mine.add(v);
+                        }
+                    } catch (Throwable t) {
+                        errors.add(t);
+                        drawn.set(total); // let the others stop
+                    }
+                }));
+            }
+
+            // Snapshots must also be FIFO per producer at every instant.
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    while (drawn.get() < total && System.nanoTime() < deadline) {
+                        int[] last = new int[PRODUCERS];
+                        Arrays.fill(last, -1);
+                        for (int v : deck.snapshotValues()) {
+                            int producer = v / PER_PRODUCER;
+                            if (v % PER_PRODUCER <= last[producer]) snapshotOk.set(false);
+                            last[producer] = v % PER_PRODUCER;
+                        }
+                    }
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+            }));
+
+            for (Thread t : threads) {
+                t.setDaemon(true);
+                t.start();
+            }
+            long t0 = System.nanoTime();
+            start.countDown();
+            joinAll(threads, deadline);
+            long nanos = System.nanoTime() - t0;
+
+            assertTrue(errors.isEmpty(), e.getKey() + ": " + errors.peek());
+            assertTrue(snapshotOk.get(), e.getKey() + ": snapshot out of FIFO order");
+            assertEquals(0, deck.size(), e.getKey() + ": deck should be empty");
+
+            // Conservation: every card drawn exactly once.
+            List<Integer> all = new ArrayList<>(total);
+            for (List<Integer> s : seen) all.addAll(s);
+            Collections.sort(all);
+            assertEquals(total, all.size(), e.getKey() + ": wrong number of cards drawn");
+            for (int i = 0; i < total; i++) {
+                assertEquals(i, all.get(i), e.getKey() + ": card lost or duplicated");
+            }
+
+            System.out.printf("[stress] %s: %d discards + %d draws in %.1f ms (%.0f ops/s)%n",
+                    e.getKey(), total, total, nanos / 1e6, 2.0 * total / (nanos / 1e9));
+        }
+    }
+
+    @Test
+    @Timeout(value = 60, unit = TimeUnit.SECONDS)
+    void ringOfPlayers_atomicTurns_conserveCards() throws Exception {
+        for (Map.Entry<String, IntFunction<CardDeck>> e : DECKS.entrySet()) {
+            int n = 6;
+            CardDeck[] decks = new CardDeck[n];
+            for (int i = 0; i < n; i++) decks[i] = e.getValue().apply(i + 1);
+
+            // Values above n so nobody ever holds their preferred card and the game runs until stopped.
+            List<Integer> dealt = new ArrayList<>();
+            Player[] players = new Player[n];
+            for (int i = 0; i < n; i++) {
+                players[i] = new Player(i + 1, decks[i], decks[(i + 1) % n]);
+                for (int r = 0; r < 4; r++) {
+                    int v = 100 + i * 8 + r;
+                    players[i].giveInitial(new Card(v));
+                    dealt.add(v);
+                }
+                for (int r = 4; r < 8; r++) {
+                    int v = 100 + i * 8 + r;
+                    decks[i].discard(new Card(v));
+                    dealt.add(v);
+                }
+            }
+
+            // Same lock order as Player.run(): ascending deck id.
+            CardDeck[] lockOrder = decks.clone();
+            Arrays.sort(lockOrder, Comparator.comparingInt(CardDeck::getDeckId));
+
+            List<Thread> ts = new ArrayList<>();
+            for (int i = 0; i < n; i++) {
+                Thread t = new Thread(players[i], "player-" + (i + 1));
+                t.setDaemon(true);
+                ts.add(t);
+            }
+
+            long t0 = System.nanoTime();
+            long nanos;
+            int samples = 0;
+            try {
+                for (Thread t : ts) t.start();
+                // A hand only changes while its owner holds both deck locks, so with every deck locked
+                // the decks must hold exactly 4n cards. A split draw/discard shows up as 4n - 1.
+                long until = System.nanoTime() + RING_MILLIS * 1_000_000;
+                while (System.nanoTime() < until) {
+                    assertEquals(4 * n, sizeUnderAllLocks(lockOrder, 0),
+                            e.getKey() + ": a turn was seen half done");
+                    samples++;
+                }
+            } finally {
+                CardGame.trySetWinner(99); // stop everyone, even if an assertion failed
+                joinAll(ts, System.nanoTime() + DEADLINE_MILLIS * 1_000_000);
+                nanos = System.nanoTime() - t0;
+            }
+            assertTrue(samples > 0, e.getKey() + ": no consistent snapshot was taken");
+
+            // Conservation: hands + decks hold exactly the cards we dealt, and every hand still has 4.
+            Field handF = Player.class.getDeclaredField("hand");
+            handF.setAccessible(true);
+            List<Integer> after = new ArrayList<>();
+            for (Player p : players) {
+                @SuppressWarnings("unchecked")
+                List<Card> hand = (List<Card>) handF.get(p);
+                assertEquals(4, hand.size(), e.getKey() + ": hand size changed");
+                for (Card c : hand) after.add(c.getValue());
+            }
+            for (CardDeck d : decks) after.addAll(d.snapshotValues());
+            Collections.sort(after);
+            Collections.sort(dealt);
+            assertEquals(dealt, after, e.getKey() + ": cards lost or duplicated across turns");
+
+            // Throughput from the "draws" lines in each player's log.
+            long turns = 0;
+            for (int i = 1; i <= n; i++) {
+                for (String line : Files.readAllLines(Path.of("player" + i + "_output.txt"))) {
+                    if (line.contains(" draws a ")) turns++;
+                }
+            }
+            assertTrue(turns > 0, e.getKey() + ": no turns were taken");
+            System.out.printf("[stress] %s: %d player turns in %.1f ms (%.0f turns/s)%n",
+                    e.getKey(), turns, nanos / 1e6, turns / (nanos / 1e9));
+        }
+    }
+
+    // Lock decks[i..] in array order, then sum all sizes while every lock is held.
+    private static int sizeUnderAllLocks(CardDeck[] decks, int i) {
+        if (i == decks.length) {
+            int sum = 0;
+            for (CardDeck d : decks) sum += d.size();
+            return sum;
+        }
+        synchronized (decks[i]) {
+            return sizeUnderAllLocks(decks, i + 1);
+        }
+    }
+
+    // Join with a shared deadline and fail rather than wait forever on a stuck thread.
+    private static void joinAll(List<Thread> threads, long deadlineNanos) throws InterruptedException {
+        for (Thread t : threads) {
+            long left = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+            t.join(Math.max(1, left));
+            assertFalse(t.isAlive(), t.getName() + " did not finish before the deadline");
+        }
+    }
+}